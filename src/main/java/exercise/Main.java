@@ -5,15 +5,56 @@ import exercise.article.Article;
 import exercise.article.LibraryImpl;
 import exercise.worker.Worker;
 import exercise.worker.WorkerImpl;
+import exercise.worker.WorkerWarmUp;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 
+/*
+Режим быстрого старта:
+    -Dcatalog.image=<файл>      каталог загружается из бинарного образа, если файл существует
+    -Dwarmup.iterations=<N>     перед готовностью выполняется прогрев WorkerWarmUp
+    -Dstartup.metrics=true      после готовности выводятся время до первого каталога и устойчивый p99
+                                addNewArticles + getCatalog с моментом, когда он перестал улучшаться
+    --train                     тренировочный запуск: сохраняет образ каталога и проходит весь сценарий,
+                                чтобы -XX:ArchiveClassesAtExit записал AppCDS архив (см. профиль appcds в pom.xml)
+ */
 public class Main {
-    public static void main(String[] args) {
-        Worker worker = new WorkerImpl(new LibraryImpl());
+    private static final String CATALOG_IMAGE_PROPERTY = "catalog.image";
+    private static final String WARMUP_ITERATIONS_PROPERTY = "warmup.iterations";
+    private static final String STARTUP_METRICS_PROPERTY = "startup.metrics";
+    private static final int METRICS_WINDOW_SIZE = 1_000;
+    private static final int METRICS_MAX_WINDOWS = 100;
+    private static final String TRAIN_ARG = "--train";
+
+    public static void main(String[] args) throws IOException {
+        String catalogImage = System.getProperty(CATALOG_IMAGE_PROPERTY);
+        int warmUpIterations = Integer.getInteger(WARMUP_ITERATIONS_PROPERTY, 0);
+        boolean startupMetrics = Boolean.getBoolean(STARTUP_METRICS_PROPERTY);
+
+        if (args.length > 0 && TRAIN_ARG.equals(args[0])) {
+            if (catalogImage == null) {
+                System.err.println("Использование: java -D" + CATALOG_IMAGE_PROPERTY + "=<файл> exercise.Main " + TRAIN_ARG);
+                System.exit(1);
+            }
+            new LibraryImpl().writeCatalogImage(Path.of(catalogImage));
+        }
+        LibraryImpl library = loadLibrary(catalogImage);
+        Worker worker = new WorkerImpl(library);
+
+        if (warmUpIterations > 0) {
+            WorkerWarmUp.run(warmUpIterations);
+        }
         System.out.println(worker.getCatalog());
+        if (startupMetrics) {
+            printStartupMetrics(library);
+        }
 
         System.out.println();
         System.out.println();
@@ -37,4 +78,27 @@ public class Main {
 
         System.out.println(worker.getCatalog());
     }
+
+    private static void printStartupMetrics(LibraryImpl library) {
+        long readyAt = ManagementFactory.getRuntimeMXBean().getUptime();
+        System.out.println("Время до первого каталога: " + readyAt + " мс");
+        WorkerWarmUp.SteadyState steadyState = WorkerWarmUp.measureSteadyState(library, METRICS_WINDOW_SIZE, METRICS_MAX_WINDOWS);
+        long reachedAt = readyAt + TimeUnit.NANOSECONDS.toMillis(steadyState.getReachedAfterNanos());
+        System.out.println("Устойчивый p99 addNewArticles + getCatalog: " + TimeUnit.NANOSECONDS.toMicros(steadyState.getP99Nanos())
+                + " мкс, " + (steadyState.isReached() ? "перестал улучшаться через " : "не установился, последнее улучшение через ")
+                + reachedAt + " мс после запуска JVM");
+    }
+
+    // Если образ отсутствует или поврежден, каталог заполняется начальными статьями
+    private static LibraryImpl loadLibrary(String catalogImage) {
+        if (catalogImage == null || !Files.exists(Path.of(catalogImage))) {
+            return new LibraryImpl();
+        }
+        try {
+            return LibraryImpl.fromCatalogImage(Path.of(catalogImage));
+        } catch (IOException e) {
+            System.err.println("Не удалось загрузить образ каталога " + catalogImage + ": " + e.getMessage());
+            return new LibraryImpl();
+        }
+    }
 }
\ No newline at end of file
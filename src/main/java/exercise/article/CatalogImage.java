@@ -0,0 +1,119 @@
+package exercise.article;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+Бинарный образ каталога статей.
+Формат: MAGIC, VERSION, число годов, затем для каждого года: год, число статей и сами статьи
+(название, содержание, автор, дата создания). Строки и дата могут отсутствовать.
+Счетчики и длины строк не могут превышать размер файла, иначе образ считается поврежденным.
+ */
+final class CatalogImage {
+    private static final int MAGIC = 0x43415431;
+    private static final int VERSION = 1;
+
+    private CatalogImage() {
+    }
+
+    static void write(Map<Integer, List<Article>> catalog, Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(catalog.size());
+            for (Map.Entry<Integer, List<Article>> entry : catalog.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (Article article : entry.getValue()) {
+                    writeString(out, article.getTitle());
+                    writeString(out, article.getContent());
+                    writeString(out, article.getAuthor());
+                    writeDate(out, article.getCreationDate());
+                }
+            }
+        }
+    }
+
+    static Map<Integer, List<Article>> read(Path path) throws IOException {
+        long fileSize = Files.size(path);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Неизвестный формат образа каталога: " + path);
+            }
+            int years = readCount(in, fileSize);
+            Map<Integer, List<Article>> catalog = new HashMap<>();
+            for (int i = 0; i < years; i++) {
+                int year = in.readInt();
+                int size = readCount(in, fileSize);
+                List<Article> articles = new ArrayList<>(size);
+                for (int j = 0; j < size; j++) {
+                    articles.add(new Article(readString(in, fileSize), readString(in, fileSize), readString(in, fileSize), readDate(in)));
+                }
+                catalog.put(year, articles);
+            }
+            return catalog;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static int readCount(DataInputStream in, long fileSize) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > fileSize) {
+            throw new IOException("Поврежденный образ каталога: недопустимое значение " + count);
+        }
+        return count;
+    }
+
+    private static String readString(DataInputStream in, long fileSize) throws IOException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > fileSize) {
+            throw new IOException("Поврежденный образ каталога: недопустимая длина строки " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDate date) throws IOException {
+        out.writeBoolean(date != null);
+        if (date != null) {
+            out.writeLong(date.toEpochDay());
+        }
+    }
+
+    private static LocalDate readDate(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long epochDay = in.readLong();
+        try {
+            return LocalDate.ofEpochDay(epochDay);
+        } catch (DateTimeException e) {
+            throw new IOException("Поврежденный образ каталога: недопустимая дата " + epochDay, e);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package exercise.article;
 
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -9,8 +12,39 @@ import java.util.Map;
 public class LibraryImpl implements Library {
     private final Map<Integer, List<Article>> storage = new HashMap<>();
     private final Map<Integer, List<Article>> tempStorage = new HashMap<>();
+    private final PrintStream out;
 
-    {
+    public LibraryImpl() {
+        this(seedCatalog());
+    }
+
+    public LibraryImpl(Map<Integer, List<Article>> catalog) {
+        this(catalog, System.out);
+    }
+
+    // out - куда выводятся сообщения о ходе работы
+    public LibraryImpl(Map<Integer, List<Article>> catalog, PrintStream out) {
+        this.out = out;
+        catalog.forEach((year, articles) -> storage.put(year, new ArrayList<>(articles)));
+    }
+
+    // Загружает каталог из бинарного образа вместо заполнения начальными статьями
+    public static LibraryImpl fromCatalogImage(Path path) throws IOException {
+        return new LibraryImpl(CatalogImage.read(path));
+    }
+
+    // Копия текущего каталога (без незагруженных статей) с другим выводом сообщений
+    public LibraryImpl copy(PrintStream out) {
+        return new LibraryImpl(storage, out);
+    }
+
+    // Сохраняет текущий каталог (без незагруженных статей) в бинарный образ
+    public void writeCatalogImage(Path path) throws IOException {
+        CatalogImage.write(storage, path);
+    }
+
+    private static Map<Integer, List<Article>> seedCatalog() {
+        Map<Integer, List<Article>> catalog = new HashMap<>();
         List<Article> article2023 = new ArrayList<>();
         List<Article> article2022 = new ArrayList<>();
 
@@ -41,13 +75,14 @@ public class LibraryImpl implements Library {
                 "Константин Константинов",
                 LocalDate.of(2022, 1, 16)));
 
-        storage.put(2022, article2022);
-        storage.put(2023, article2023);
+        catalog.put(2022, article2022);
+        catalog.put(2023, article2023);
+        return catalog;
     }
 
     @Override
     public void store(int year, List<Article> articles) {
-        System.out.println("Сохраняем новые статьи");
+        out.println("Сохраняем новые статьи");
         tempStorage.merge(year, articles, (oldList, newList) -> {
             oldList.addAll(newList);
             return oldList;
@@ -56,7 +91,7 @@ public class LibraryImpl implements Library {
 
     @Override
     public void updateCatalog() {
-        System.out.println("Обновляем каталог");
+        out.println("Обновляем каталог");
         tempStorage.forEach((key, value) -> storage.merge(key, value, (oldList, newList) -> {
             oldList.addAll(newList);
             return oldList;
@@ -66,7 +101,7 @@ public class LibraryImpl implements Library {
 
     @Override
     public List<String> getAllTitles() {
-        System.out.println("Формируем список названий статей");
+        out.println("Формируем список названий статей");
         return storage.values().stream().flatMap(List::stream).map(Article::getTitle).toList();
     }
 }
\ No newline at end of file
@@ -0,0 +1,268 @@
+package exercise.worker;
+
+import exercise.article.Article;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+Контроль допуска перед Worker.
+1. Ограничивает число статей и объем данных (в байтах), которые одновременно находятся в обработке.
+2. Ограничивает число одновременных вызовов addNewArticles адаптивным лимитом (AIMD):
+   если вызов уложился в целевую задержку при загруженном лимите, лимит растет (в среднем на единицу
+   за каждые limit вызовов), если не уложился - уменьшается в BACKOFF_RATIO раз, но не чаще одного раза
+   за окно: вызовы, допущенные до последнего уменьшения, лимит повторно не уменьшают. Начальный лимит минимальный.
+   Задержка считается от допуска до завершения вызова, то есть включает ожидание очереди к библиотеке:
+   именно ее видит вызывающий код. Время работы самой библиотеки доступно отдельно (getLibraryLatencyNanos).
+3. При перегрузке либо сразу отклоняет вызов (FAIL_FAST), либо ждет освобождения не дольше таймаута (BLOCK).
+Сама библиотека не потокобезопасна, поэтому обращения к ней выполняются по очереди.
+ */
+public class AdmissionControlledWorker implements Worker {
+    public enum Mode {
+        FAIL_FAST,
+        BLOCK
+    }
+
+    private static final int MIN_LIMIT = 1;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final Worker worker;
+    private final Mode mode;
+    private final int maxInFlightArticles;
+    private final long maxInFlightBytes;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final long timeoutNanos;
+
+    private final ReentrantLock admissionLock = new ReentrantLock();
+    private final Condition released = admissionLock.newCondition();
+    private final ReentrantLock libraryLock = new ReentrantLock(true);
+
+    private double limit;
+    private int inFlightRequests;
+    private int inFlightArticles;
+    private long inFlightBytes;
+    private int queueDepth;
+    private long rejectedCount;
+    private long admittedCount;
+    private long lastDecreaseAt = -1;
+    private double libraryLatencyNanos;
+
+    public AdmissionControlledWorker(Worker worker, Mode mode, int maxInFlightArticles, long maxInFlightBytes,
+                                     int maxLimit, Duration targetLatency, Duration timeout) {
+        if (maxInFlightArticles < 1 || maxInFlightBytes < 1 || maxLimit < MIN_LIMIT) {
+            throw new IllegalArgumentException("Лимиты должны быть положительными");
+        }
+        this.worker = worker;
+        this.mode = mode;
+        this.maxInFlightArticles = maxInFlightArticles;
+        this.maxInFlightBytes = maxInFlightBytes;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.timeoutNanos = timeout.toNanos();
+        this.limit = MIN_LIMIT;
+    }
+
+    @Override
+    public void addNewArticles(List<Article> articles) {
+        int articleCount = articles.size();
+        long bytes = estimateBytes(articles);
+        long admission = acquire(articleCount, bytes);
+        long start = System.nanoTime();
+        long libraryNanos = 0;
+        try {
+            libraryLock.lock();
+            long lockedAt = System.nanoTime();
+            try {
+                worker.addNewArticles(articles);
+            } finally {
+                libraryNanos = System.nanoTime() - lockedAt;
+                libraryLock.unlock();
+            }
+        } finally {
+            release(articleCount, bytes, admission, System.nanoTime() - start, libraryNanos);
+        }
+    }
+
+    @Override
+    public String getCatalog() {
+        libraryLock.lock();
+        try {
+            return worker.getCatalog();
+        } finally {
+            libraryLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Article> prepareArticles(List<Article> articles) {
+        return worker.prepareArticles(articles);
+    }
+
+    // Число вызовов, ожидающих допуска. Бывает ненулевым только в режиме BLOCK:
+    // в режиме FAIL_FAST такие вызовы сразу отклоняются
+    public int getQueueDepth() {
+        admissionLock.lock();
+        try {
+            return queueDepth;
+        } finally {
+            admissionLock.unlock();
+        }
+    }
+
+    // Оценка числа допущенных вызовов (и вызовов getCatalog), ожидающих доступа к библиотеке
+    public int getLibraryQueueLength() {
+        return libraryLock.getQueueLength();
+    }
+
+    // Сглаженное время работы библиотеки за вызов addNewArticles, без ожидания очереди
+    public long getLibraryLatencyNanos() {
+        admissionLock.lock();
+        try {
+            return (long) libraryLatencyNanos;
+        } finally {
+            admissionLock.unlock();
+        }
+    }
+
+    public int getInFlightArticles() {
+        admissionLock.lock();
+        try {
+            return inFlightArticles;
+        } finally {
+            admissionLock.unlock();
+        }
+    }
+
+    public long getInFlightBytes() {
+        admissionLock.lock();
+        try {
+            return inFlightBytes;
+        } finally {
+            admissionLock.unlock();
+        }
+    }
+
+    public long getRejectedCount() {
+        admissionLock.lock();
+        try {
+            return rejectedCount;
+        } finally {
+            admissionLock.unlock();
+        }
+    }
+
+    // Текущий адаптивный лимит одновременных вызовов
+    public int getConcurrencyLimit() {
+        admissionLock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            admissionLock.unlock();
+        }
+    }
+
+    // Возвращает порядковый номер допуска
+    private long acquire(int articleCount, long bytes) {
+        admissionLock.lock();
+        try {
+            if (articleCount > maxInFlightArticles || bytes > maxInFlightBytes) {
+                throw reject("Пакет статей превышает допустимый объем");
+            }
+            long remaining = timeoutNanos;
+            while (!canAdmit(articleCount, bytes)) {
+                if (mode == Mode.FAIL_FAST || remaining <= 0) {
+                    throw reject("Превышен лимит одновременной обработки статей");
+                }
+                queueDepth++;
+                try {
+                    remaining = released.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    RejectedExecutionException rejection = reject("Ожидание допуска прервано");
+                    rejection.initCause(e);
+                    throw rejection;
+                } finally {
+                    queueDepth--;
+                }
+            }
+            inFlightRequests++;
+            inFlightArticles += articleCount;
+            inFlightBytes += bytes;
+            return admittedCount++;
+        } finally {
+            admissionLock.unlock();
+        }
+    }
+
+    private void release(int articleCount, long bytes, long admission, long latencyNanos, long libraryNanos) {
+        admissionLock.lock();
+        try {
+            adjustLimit(admission, latencyNanos);
+            libraryLatencyNanos = libraryLatencyNanos == 0
+                    ? libraryNanos
+                    : libraryLatencyNanos + LATENCY_SMOOTHING * (libraryNanos - libraryLatencyNanos);
+            inFlightRequests--;
+            inFlightArticles -= articleCount;
+            inFlightBytes -= bytes;
+            released.signalAll();
+        } finally {
+            admissionLock.unlock();
+        }
+    }
+
+    private boolean canAdmit(int articleCount, long bytes) {
+        return inFlightRequests < (int) limit &&
+                inFlightArticles + articleCount <= maxInFlightArticles &&
+                inFlightBytes + bytes <= maxInFlightBytes;
+    }
+
+    private void adjustLimit(long admission, long latencyNanos) {
+        if (latencyNanos <= targetLatencyNanos) {
+            // Лимит растет, только если он действительно используется
+            if (inFlightRequests * 2 >= (int) limit) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        } else if (admission > lastDecreaseAt) {
+            limit = Math.max(MIN_LIMIT, limit * BACKOFF_RATIO);
+            lastDecreaseAt = admittedCount - 1;
+        }
+    }
+
+    private RejectedExecutionException reject(String message) {
+        rejectedCount++;
+        return new RejectedExecutionException(message);
+    }
+
+    private long estimateBytes(List<Article> articles) {
+        long chars = 0;
+        for (Article article : articles) {
+            chars += length(article.getTitle()) + length(article.getContent()) + length(article.getAuthor());
+        }
+        return chars * Character.BYTES;
+    }
+
+    private int length(String s) {
+        return s == null ? 0 : s.length();
+    }
+
+    @Override
+    public String toString() {
+        admissionLock.lock();
+        try {
+            return "AdmissionControlledWorker{" +
+                    "limit=" + (int) limit +
+                    ", inFlightArticles=" + inFlightArticles +
+                    ", inFlightBytes=" + inFlightBytes +
+                    ", queueDepth=" + queueDepth +
+                    ", rejected=" + rejectedCount +
+                    '}';
+        } finally {
+            admissionLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package exercise.worker;
+
+import exercise.article.Article;
+import exercise.article.LibraryImpl;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/*
+Прогрев горячих путей Worker (prepareArticles, groupingBy в addNewArticles, getCatalog) до того,
+как приложение сообщит о готовности, и измерение устойчивого p99 того же сценария после готовности.
+Использует те же WorkerImpl и LibraryImpl, что и рабочий каталог, но на одноразовых экземплярах
+с отключенным выводом сообщений, поэтому рабочий каталог не меняется.
+ */
+public final class WorkerWarmUp {
+    private static final PrintStream QUIET = new PrintStream(OutputStream.nullOutputStream());
+    // Окно считается устойчивым, если его p99 не лучше лучшего предыдущего более чем на 10%
+    private static final double IMPROVEMENT_RATIO = 0.9;
+    private static final int STABLE_WINDOWS = 3;
+
+    private WorkerWarmUp() {
+    }
+
+    public static void run(int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            Worker worker = new WorkerImpl(new LibraryImpl(Map.of(), QUIET));
+            worker.addNewArticles(articles(i));
+            worker.getCatalog();
+        }
+    }
+
+    /*
+    Выполняет addNewArticles + getCatalog на копиях каталога library окнами по windowSize вызовов,
+    пока p99 окна не перестанет улучшаться STABLE_WINDOWS окон подряд (но не более maxWindows окон).
+     */
+    public static SteadyState measureSteadyState(LibraryImpl library, int windowSize, int maxWindows) {
+        long start = System.nanoTime();
+        long[][] lastWindows = new long[STABLE_WINDOWS][];
+        long bestP99 = Long.MAX_VALUE;
+        long improvedAt = 0;
+        int stableWindows = 0;
+        int window = 0;
+        while (window < maxWindows && stableWindows < STABLE_WINDOWS) {
+            long[] latencies = new long[windowSize];
+            for (int i = 0; i < windowSize; i++) {
+                Worker worker = new WorkerImpl(library.copy(QUIET));
+                List<Article> articles = articles(i);
+                long callStart = System.nanoTime();
+                worker.addNewArticles(articles);
+                worker.getCatalog();
+                latencies[i] = System.nanoTime() - callStart;
+            }
+            lastWindows[window % STABLE_WINDOWS] = latencies;
+            window++;
+
+            long p99 = p99(latencies);
+            if (p99 < bestP99 * IMPROVEMENT_RATIO) {
+                improvedAt = System.nanoTime() - start;
+                stableWindows = 0;
+            } else {
+                stableWindows++;
+            }
+            bestP99 = Math.min(bestP99, p99);
+        }
+        long[] tail = Arrays.stream(lastWindows)
+                .filter(latencies -> latencies != null)
+                .flatMapToLong(Arrays::stream)
+                .toArray();
+        return new SteadyState(p99(tail), improvedAt, stableWindows == STABLE_WINDOWS);
+    }
+
+    private static long p99(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+    }
+
+    private static List<Article> articles(int i) {
+        List<Article> articles = new ArrayList<>();
+        articles.add(new Article("Статья " + i, "Содержание", "Автор", LocalDate.of(2023, 1, 1)));
+        articles.add(new Article("Статья " + i, "Содержание", "Автор", LocalDate.of(2023, 1, 1)));
+        articles.add(new Article("Черновик " + i, "Содержание", "Автор", null));
+        articles.add(new Article(null, "Содержание", "Автор", LocalDate.of(2022, 1, 1)));
+        return articles;
+    }
+
+    public static class SteadyState {
+        private final long p99Nanos;
+        private final long reachedAfterNanos;
+        private final boolean reached;
+
+        SteadyState(long p99Nanos, long reachedAfterNanos, boolean reached) {
+            this.p99Nanos = p99Nanos;
+            this.reachedAfterNanos = reachedAfterNanos;
+            this.reached = reached;
+        }
+
+        // p99 по последним окнам измерения
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        // Время от начала измерения до окна, после которого p99 перестал улучшаться
+        public long getReachedAfterNanos() {
+            return reachedAfterNanos;
+        }
+
+        public boolean isReached() {
+            return reached;
+        }
+    }
+}
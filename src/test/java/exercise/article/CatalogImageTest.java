@@ -0,0 +1,103 @@
+package exercise.article;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Проверка бинарного образа каталога")
+class CatalogImageTest {
+
+    @TempDir
+    private Path dir;
+
+    @DisplayName("Сохранение и загрузка статей")
+    @Test
+    void testWriteAndRead() throws IOException {
+        List<Article> articles = new ArrayList<>();
+        articles.add(new Article("Hello, Mockito!", "Where is verify?", "noBrain", LocalDate.of(2023, 10, 16)));
+        articles.add(new Article("Привет, Java!", null, "Иван Иванов", null));
+        Path image = dir.resolve("catalog.img");
+
+        CatalogImage.write(Map.of(2023, articles), image);
+        Map<Integer, List<Article>> catalog = CatalogImage.read(image);
+
+        assertEquals(Map.of(2023, articles), catalog, "Статьи должны совпадать после загрузки образа");
+        assertEquals(LocalDate.of(2023, 10, 16), catalog.get(2023).get(0).getCreationDate(), "Дата статьи должна сохраняться");
+        assertNull(catalog.get(2023).get(1).getCreationDate(), "Пустая дата должна оставаться пустой");
+    }
+
+    @DisplayName("Каталог из образа совпадает с начальным каталогом")
+    @Test
+    void testLibraryFromCatalogImage() throws IOException {
+        Path image = dir.resolve("catalog.img");
+
+        new LibraryImpl().writeCatalogImage(image);
+        Library library = LibraryImpl.fromCatalogImage(image);
+
+        assertEquals(new LibraryImpl().getAllTitles(), library.getAllTitles(), "Названия статей должны совпадать");
+    }
+
+    @DisplayName("Неизвестный формат образа")
+    @Test
+    void testReadUnknownFormat() throws IOException {
+        Path image = dir.resolve("catalog.img");
+        Files.write(image, new byte[]{0, 0, 0, 0, 0, 0, 0, 1});
+
+        assertThrows(IOException.class, () -> CatalogImage.read(image), "Файл неизвестного формата не должен загружаться");
+    }
+
+    @DisplayName("Обрезанный образ")
+    @Test
+    void testReadTruncatedImage() throws IOException {
+        Path image = dir.resolve("catalog.img");
+        new LibraryImpl().writeCatalogImage(image);
+        byte[] bytes = Files.readAllBytes(image);
+        Files.write(image, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertThrows(IOException.class, () -> CatalogImage.read(image), "Обрезанный образ не должен загружаться");
+    }
+
+    @DisplayName("Отрицательное число статей в образе")
+    @Test
+    void testReadNegativeCount() throws IOException {
+        Path image = dir.resolve("catalog.img");
+        ByteBuffer buffer = ByteBuffer.allocate(20).putInt(0x43415431).putInt(1).putInt(1).putInt(2023).putInt(-5);
+        Files.write(image, buffer.array());
+
+        assertThrows(IOException.class, () -> CatalogImage.read(image), "Образ с отрицательным числом статей не должен загружаться");
+    }
+
+    @DisplayName("Недопустимая длина строки в образе")
+    @Test
+    void testReadHugeStringLength() throws IOException {
+        Path image = dir.resolve("catalog.img");
+        ByteBuffer buffer = ByteBuffer.allocate(24).putInt(0x43415431).putInt(1).putInt(1).putInt(2023).putInt(1).putInt(Integer.MAX_VALUE);
+        Files.write(image, buffer.array());
+
+        assertThrows(IOException.class, () -> CatalogImage.read(image), "Образ с недопустимой длиной строки не должен загружаться");
+    }
+
+    @DisplayName("Недопустимая дата в образе")
+    @Test
+    void testReadInvalidDate() throws IOException {
+        Path image = dir.resolve("catalog.img");
+        ByteBuffer buffer = ByteBuffer.allocate(44).putInt(0x43415431).putInt(1).putInt(1).putInt(2023).putInt(1)
+                .putInt(1).put((byte) 'a').putInt(1).put((byte) 'b').putInt(1).put((byte) 'c')
+                .put((byte) 1).putLong(1L << 62);
+        Files.write(image, buffer.array());
+
+        assertThrows(IOException.class, () -> CatalogImage.read(image), "Образ с недопустимой датой не должен загружаться");
+    }
+}
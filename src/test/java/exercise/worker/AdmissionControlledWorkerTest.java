@@ -0,0 +1,360 @@
+package exercise.worker;
+
+import exercise.article.Article;
+import exercise.article.Library;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Проверка контроля допуска работника")
+class AdmissionControlledWorkerTest {
+
+    @Mock
+    private Library library;
+
+    @BeforeEach
+    void prepare() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private List<Article> newArticles() {
+        List<Article> articles = new ArrayList<>();
+        articles.add(new Article("Hello, Mockito!", "Where is verify?", "noBrain", LocalDate.of(2023, 10, 16)));
+        return articles;
+    }
+
+    private AdmissionControlledWorker admissionWorker(Library library, AdmissionControlledWorker.Mode mode,
+                                                      long maxBytes, int maxLimit, Duration timeout) {
+        return new AdmissionControlledWorker(new WorkerImpl(library), mode, 1_000, maxBytes,
+                maxLimit, Duration.ofSeconds(1), timeout);
+    }
+
+    private CountDownLatch blockUpdateCatalog(CountDownLatch started) {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(library).updateCatalog();
+        return release;
+    }
+
+    @DisplayName("Пакет больше допустимого объема")
+    @Test
+    void testRejectOversizedBatch() {
+        AdmissionControlledWorker worker = admissionWorker(library, AdmissionControlledWorker.Mode.BLOCK, 16, 1, Duration.ofSeconds(1));
+
+        assertThrows(RejectedExecutionException.class, () -> worker.addNewArticles(newArticles()),
+                "Пакет больше допустимого объема должен отклоняться сразу");
+        assertEquals(1, worker.getRejectedCount(), "Отклонение должно учитываться в метриках");
+        verify(library, never()).store(anyInt(), anyList());
+    }
+
+    @DisplayName("Отказ при перегрузке в режиме FAIL_FAST")
+    @Test
+    void testFailFastWhenLimitReached() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = blockUpdateCatalog(started);
+        AdmissionControlledWorker worker = admissionWorker(library, AdmissionControlledWorker.Mode.FAIL_FAST, 1_000_000, 1, Duration.ZERO);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> first = executor.submit(() -> worker.addNewArticles(newArticles()));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(RejectedExecutionException.class, () -> worker.addNewArticles(newArticles()),
+                    "При занятом лимите вызов должен отклоняться сразу");
+            assertEquals(1, worker.getInFlightArticles(), "В обработке должна оставаться одна статья");
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            assertEquals(1, worker.getRejectedCount());
+            assertEquals(0, worker.getInFlightArticles());
+            assertEquals(0, worker.getInFlightBytes());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @DisplayName("Ожидание допуска в режиме BLOCK")
+    @Test
+    void testBlockUntilReleased() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = blockUpdateCatalog(started);
+        AdmissionControlledWorker worker = admissionWorker(library, AdmissionControlledWorker.Mode.BLOCK, 1_000_000, 1, Duration.ofSeconds(5));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> worker.addNewArticles(newArticles()));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<?> second = executor.submit(() -> worker.addNewArticles(newArticles()));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (worker.getQueueDepth() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(1, worker.getQueueDepth(), "Второй вызов должен ожидать в очереди");
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+            assertEquals(0, worker.getQueueDepth());
+            assertEquals(0, worker.getRejectedCount(), "В режиме BLOCK вызов не должен отклоняться до таймаута");
+            verify(library, times(2)).updateCatalog();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @DisplayName("Стабильный p99 под перегрузкой")
+    @Test
+    void testStableLatencyUnderOverload() throws Exception {
+        int threads = 64;
+        Duration targetLatency = Duration.ofMillis(20);
+        AdmissionControlledWorker worker = new AdmissionControlledWorker(new WorkerImpl(new SlowLibrary(Duration.ofMillis(2))),
+                AdmissionControlledWorker.Mode.FAIL_FAST, 1_000, 1_000_000, threads, targetLatency, Duration.ZERO);
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Long> controlled = runLoad(threads, Duration.ofSeconds(1), () -> {
+            try {
+                worker.addNewArticles(newArticles());
+                return true;
+            } catch (RejectedExecutionException e) {
+                rejected.incrementAndGet();
+                return false;
+            }
+        });
+
+        // Тот же поток вызовов без контроля допуска: вызовы просто выстраиваются в очередь к библиотеке
+        Worker plainWorker = new WorkerImpl(new SlowLibrary(Duration.ofMillis(2)));
+        ReentrantLock libraryLock = new ReentrantLock(true);
+        List<Long> unbounded = runLoad(threads, Duration.ofSeconds(1), () -> {
+            libraryLock.lock();
+            try {
+                plainWorker.addNewArticles(newArticles());
+                return true;
+            } finally {
+                libraryLock.unlock();
+            }
+        });
+
+        long p99 = p99(controlled);
+        long unboundedP99 = p99(unbounded);
+
+        assertTrue(rejected.get() > 0, "Под перегрузкой часть вызовов должна отклоняться");
+        assertEquals(rejected.get(), worker.getRejectedCount(), "Метрика отказов должна совпадать с числом отказов");
+        assertTrue(worker.getLibraryLatencyNanos() < targetLatency.toNanos(),
+                "Время работы библиотеки должно учитываться без ожидания очереди");
+        assertTrue(p99 < targetLatency.toNanos() * 4,
+                "p99 допущенных вызовов должен оставаться около целевой задержки: " + TimeUnit.NANOSECONDS.toMillis(p99) + " мс");
+        assertTrue(p99 * 2 < unboundedP99,
+                "p99 с контролем допуска (" + TimeUnit.NANOSECONDS.toMillis(p99) + " мс) должен быть заметно ниже, чем без него ("
+                        + TimeUnit.NANOSECONDS.toMillis(unboundedP99) + " мс)");
+        assertEquals(0, worker.getInFlightArticles());
+        assertEquals(0, worker.getQueueDepth());
+    }
+
+    @DisplayName("Снижение лимита при медленной библиотеке и восстановление после")
+    @Test
+    void testLimitFallsAndRecovers() throws Exception {
+        int threads = 16;
+        SlowLibrary slowLibrary = new SlowLibrary(Duration.ofNanos(100_000));
+        AdmissionControlledWorker worker = new AdmissionControlledWorker(new WorkerImpl(slowLibrary),
+                AdmissionControlledWorker.Mode.FAIL_FAST, 1_000, 1_000_000, threads, Duration.ofMillis(5), Duration.ZERO);
+        Callable<Boolean> call = () -> {
+            try {
+                worker.addNewArticles(newArticles());
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        };
+
+        runLoad(threads, Duration.ofMillis(500), call);
+        int fastLimit = worker.getConcurrencyLimit();
+        slowLibrary.setDelay(Duration.ofMillis(6));
+        runLoad(threads, Duration.ofMillis(1500), call);
+        int slowLimit = worker.getConcurrencyLimit();
+        slowLibrary.setDelay(Duration.ofNanos(100_000));
+        runLoad(threads, Duration.ofMillis(500), call);
+        int recoveredLimit = worker.getConcurrencyLimit();
+
+        assertTrue(fastLimit > 4, "При быстрой библиотеке лимит должен расти: " + fastLimit);
+        assertTrue(slowLimit < fastLimit, "При медленной библиотеке лимит должен снижаться: " + fastLimit + " -> " + slowLimit);
+        assertTrue(recoveredLimit > slowLimit, "После восстановления библиотеки лимит должен снова расти: " + slowLimit + " -> " + recoveredLimit);
+    }
+
+    @DisplayName("Одно снижение лимита на окно медленных вызовов")
+    @Test
+    void testSingleDecreasePerWindow() throws Exception {
+        AtomicReference<CountDownLatch> gate = new AtomicReference<>(new CountDownLatch(0));
+        doAnswer(invocation -> {
+            gate.get().await(5, TimeUnit.SECONDS);
+            Thread.sleep(1);
+            return null;
+        }).when(library).updateCatalog();
+        AdmissionControlledWorker worker = new AdmissionControlledWorker(new WorkerImpl(library),
+                AdmissionControlledWorker.Mode.FAIL_FAST, 1_000, 1_000_000, 4, Duration.ofMillis(50), Duration.ZERO);
+        runLoad(4, Duration.ofMillis(300), () -> {
+            try {
+                worker.addNewArticles(newArticles());
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        });
+        assertEquals(4, worker.getConcurrencyLimit(), "При быстрых вызовах лимит должен дорасти до максимального");
+
+        gate.set(new CountDownLatch(1));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> slowCalls = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                slowCalls.add(executor.submit(() -> worker.addNewArticles(newArticles())));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (worker.getInFlightArticles() < 4 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(4, worker.getInFlightArticles(), "Все медленные вызовы должны быть допущены");
+            Thread.sleep(60);
+            gate.get().countDown();
+            for (Future<?> call : slowCalls) {
+                call.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 4 * 0.9 = 3.6, а при снижении на каждом вызове было бы 4 * 0.9^4 = 2.6
+        assertEquals(3, worker.getConcurrencyLimit(), "Медленные вызовы одного окна должны снижать лимит только один раз");
+    }
+
+    @DisplayName("Очередь допущенных вызовов к библиотеке")
+    @Test
+    void testLibraryQueueLength() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doNothing().doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(library).updateCatalog();
+        AdmissionControlledWorker worker = admissionWorker(library, AdmissionControlledWorker.Mode.FAIL_FAST, 1_000_000, 2, Duration.ZERO);
+        // Быстрый вызов поднимает лимит до двух
+        worker.addNewArticles(newArticles());
+        assertEquals(2, worker.getConcurrencyLimit());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> worker.addNewArticles(newArticles()));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<?> second = executor.submit(() -> worker.addNewArticles(newArticles()));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (worker.getLibraryQueueLength() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(1, worker.getLibraryQueueLength(), "Допущенный вызов должен ожидать доступа к библиотеке");
+            assertEquals(0, worker.getQueueDepth(), "В режиме FAIL_FAST вызовы не ожидают допуска");
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+            assertEquals(0, worker.getLibraryQueueLength());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Генератор нагрузки: threads потоков в течение duration повторяют вызов, возвращает задержки допущенных вызовов
+    private List<Long> runLoad(int threads, Duration duration, Callable<Boolean> call) throws Exception {
+        long loadNanos = duration.toNanos();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long end = System.nanoTime() + loadNanos;
+                    while (System.nanoTime() < end) {
+                        long begin = System.nanoTime();
+                        if (call.call()) {
+                            latencies.add(System.nanoTime() - begin);
+                        } else {
+                            Thread.sleep(1);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new ArrayList<>(latencies);
+    }
+
+    private long p99(List<Long> latencies) {
+        assertFalse(latencies.isEmpty(), "Часть вызовов должна быть допущена");
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+
+    // Библиотека с настраиваемым временем обновления каталога
+    private static class SlowLibrary implements Library {
+        private volatile long updateNanos;
+
+        SlowLibrary(Duration updateTime) {
+            setDelay(updateTime);
+        }
+
+        void setDelay(Duration updateTime) {
+            this.updateNanos = updateTime.toNanos();
+        }
+
+        @Override
+        public void store(int year, List<Article> articles) {
+        }
+
+        @Override
+        public void updateCatalog() {
+            long deadline = System.nanoTime() + updateNanos;
+            while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(deadline - System.nanoTime());
+            }
+        }
+
+        @Override
+        public List<String> getAllTitles() {
+            return List.of();
+        }
+    }
+}